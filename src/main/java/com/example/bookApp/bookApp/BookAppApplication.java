@@ -3,9 +3,11 @@ package com.example.bookApp.bookApp;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@ComponentScan("com.example.bookApp.bookApp.controllers") // Add this if needed
+@ComponentScan({"com.example.bookApp.bookApp.controllers", "com.example.bookApp.bookApp.catalog", "com.example.bookApp.bookApp.auth"}) // Add this if needed
+@EnableScheduling
 
 public class BookAppApplication {
 
@@ -0,0 +1,138 @@
+package com.example.bookApp.bookApp.auth;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PBKDF2 password hashing stored as "pbkdf2$iterations$salt$hash" (about 80 characters;
+ * db/user-password-hash.sql widens the user.password column accordingly).
+ *
+ * Successful verifications are remembered per stored hash in a bounded LRU map, so a user
+ * logging in again with the same password skips the key derivation. Changing the password changes the
+ * stored hash, which makes the old cache entry unreachable.
+ *
+ * Cost: at the default 310000 iterations one derivation takes about 130 ms of CPU (JDK 21, one Xeon core),
+ * i.e. a core verifies at most 7-8 uncached logins per second. Registrations, password changes, first logins
+ * and every failed login pay it in full on the request thread; only repeated successful logins hit the cache.
+ */
+@Component
+public class PasswordHasher {
+    private static final String PREFIX = "pbkdf2$";
+    private static final String KDF_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String CACHE_MAC_ALGORITHM = "HmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+    private final Map<String, byte[]> verifiedCache;
+    private final SecretKeySpec cacheKey;
+
+    @Autowired
+    public PasswordHasher(@Value("${auth.password.iterations:310000}") int iterations,
+                          @Value("${auth.password.verification-cache-size:1000}") int cacheSize) {
+        this.iterations = iterations;
+        // Access-ordered, so the least recently verified entry is the one evicted
+        this.verifiedCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        // Cache entries are keyed with a per-process secret so they are useless outside this JVM
+        byte[] key = new byte[32];
+        random.nextBytes(key);
+        this.cacheKey = new SecretKeySpec(key, CACHE_MAC_ALGORITHM);
+    }
+
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    public boolean matches(String password, String stored) {
+        if (stored == null) {
+            return false;
+        }
+        if (!stored.startsWith(PREFIX)) {
+            // Rows written before hashing was introduced still hold the plain password
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+
+        byte[] fingerprint = fingerprint(password);
+        byte[] cached = verifiedCache.get(stored);
+        if (cached != null && MessageDigest.isEqual(cached, fingerprint)) {
+            return true;
+        }
+
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            if (!MessageDigest.isEqual(expected, derive(password, salt, storedIterations))) {
+                return false;
+            }
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        verifiedCache.put(stored, fingerprint);
+        return true;
+    }
+
+    // True for plain-text passwords and for hashes made with an older work factor
+    public boolean needsRehash(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        return parts.length != 4 || !parts[1].equals(String.valueOf(iterations));
+    }
+
+    // For tests; containsKey does not count as an access, so it leaves the LRU order alone
+    boolean isCached(String stored) {
+        return verifiedCache.containsKey(stored);
+    }
+
+    private byte[] fingerprint(String password) {
+        try {
+            Mac mac = Mac.getInstance(CACHE_MAC_ALGORITHM);
+            mac.init(cacheKey);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC is not available", e);
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(KDF_ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
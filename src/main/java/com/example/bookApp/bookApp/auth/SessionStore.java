@@ -0,0 +1,222 @@
+package com.example.bookApp.bookApp.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Stateless HMAC-signed session tokens plus a bounded, node-local cache of user profiles.
+ *
+ * A token is "payload.signature"; the payload carries the user id, the expiry time, a credential
+ * stamp (keyed hash of the stored password hash) and a random nonce. Every node configured with the same
+ * auth.token.secret verifies it on its own, so tokens keep working behind a load balancer and across
+ * restarts and deploys. The profile cache only saves reloading the user row: on a miss the row is read
+ * again, and a stamp that no longer matches (the password was changed) rejects every older token.
+ *
+ * Profiles are cached for auth.profile-cache.ttl-seconds, so a change made through another node shows up
+ * here within that time. Logout is recorded on the node that handled it; other nodes accept the token
+ * until it expires.
+ */
+@Component
+public class SessionStore {
+    public record Session(String nonce, long userId, String credentialStamp, long expiresAt) {
+
+        public boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    private record CachedProfile(Map<String, Object> profile, String credentialStamp, long loadedAt) {
+    }
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final int STAMP_BYTES = 16;
+    private static final long WARN_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Logger logger = LoggerFactory.getLogger(SessionStore.class);
+    private final Map<Long, CachedProfile> profiles = new ConcurrentHashMap<>();
+    // Nonces of tokens logged out on this node, kept until the token would have expired anyway
+    private final Map<String, Long> loggedOut = new ConcurrentHashMap<>();
+    private final AtomicLong lastFullWarning = new AtomicLong();
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKeySpec signingKey;
+    private final long ttlMillis;
+    private final long profileTtlMillis;
+    private final int maxProfiles;
+
+    @Autowired
+    public SessionStore(@Value("${auth.token.secret:}") String secret,
+                        @Value("${auth.session.ttl-minutes:60}") long ttlMinutes,
+                        @Value("${auth.profile-cache.ttl-seconds:30}") long profileTtlSeconds,
+                        @Value("${auth.profile-cache.max-entries:10000}") int maxProfiles) {
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+        if (key.length < MIN_SECRET_BYTES) {
+            // A per-process key would make tokens fail on every other node and after every restart
+            throw new IllegalStateException("auth.token.secret must be set to the same value on every node, at least "
+                    + MIN_SECRET_BYTES + " bytes (e.g. through AUTH_TOKEN_SECRET)");
+        }
+        this.signingKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.profileTtlMillis = TimeUnit.SECONDS.toMillis(profileTtlSeconds);
+        this.maxProfiles = maxProfiles;
+    }
+
+    // Issues a token for a user row as read from the database, password hash included
+    public String create(Map<String, Object> user) {
+        long userId = ((Number) user.get("id")).longValue();
+        String stamp = credentialStamp(user);
+        cacheProfile(userId, user, stamp);
+
+        byte[] nonce = new byte[12];
+        random.nextBytes(nonce);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String payload = userId + ":" + (System.currentTimeMillis() + ttlMillis) + ":" + stamp + ":" + encoder.encodeToString(nonce);
+        String encodedPayload = encoder.encodeToString(payload.getBytes(StandardCharsets.US_ASCII));
+        return encodedPayload + "." + sign(encodedPayload);
+    }
+
+    // Accepts either the raw token or an "Authorization: Bearer <token>" header value.
+    // Checks signature, expiry and logout only; see profile() for whether the credentials are still current.
+    public Session resolve(String token) {
+        if (token == null) {
+            return null;
+        }
+        if (token.startsWith(BEARER_PREFIX)) {
+            token = token.substring(BEARER_PREFIX.length()).trim();
+        }
+
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String encodedPayload = token.substring(0, dot);
+        byte[] signature = token.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(signature, sign(encodedPayload).getBytes(StandardCharsets.US_ASCII))) {
+            return null;
+        }
+
+        Session session;
+        try {
+            String[] fields = new String(Base64.getUrlDecoder().decode(encodedPayload), StandardCharsets.US_ASCII).split(":", -1);
+            if (fields.length != 4) {
+                return null;
+            }
+            session = new Session(fields[3], Long.parseLong(fields[0]), fields[2], Long.parseLong(fields[1]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (session.isExpired(System.currentTimeMillis()) || loggedOut.containsKey(session.nonce())) {
+            return null;
+        }
+        return session;
+    }
+
+    // The session user's profile (without password), or null when the user is gone or the password changed
+    // since the token was issued. loader reads the user row by id and returns null when there is none.
+    public Map<String, Object> profile(Session session, LongFunction<Map<String, Object>> loader) {
+        CachedProfile cached = profiles.get(session.userId());
+        if (cached == null || System.currentTimeMillis() - cached.loadedAt() >= profileTtlMillis) {
+            Map<String, Object> user = loader.apply(session.userId());
+            if (user == null) {
+                profiles.remove(session.userId());
+                return null;
+            }
+            cached = cacheProfile(session.userId(), user, credentialStamp(user));
+        }
+        return cached.credentialStamp().equals(session.credentialStamp()) ? cached.profile() : null;
+    }
+
+    // Replaces the cached profile after the user row changed; a new password hash rejects older tokens at once
+    public void updateProfile(Map<String, Object> user) {
+        cacheProfile(((Number) user.get("id")).longValue(), user, credentialStamp(user));
+    }
+
+    public void invalidate(Session session) {
+        loggedOut.put(session.nonce(), session.expiresAt());
+    }
+
+    @Scheduled(fixedDelayString = "${auth.session.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        loggedOut.values().removeIf(expiresAt -> now >= expiresAt);
+        profiles.values().removeIf(cached -> now - cached.loadedAt() >= profileTtlMillis);
+    }
+
+    private CachedProfile cacheProfile(long userId, Map<String, Object> user, String stamp) {
+        if (profiles.size() >= maxProfiles && !profiles.containsKey(userId)) {
+            makeRoom();
+        }
+        CachedProfile cached = new CachedProfile(copyProfile(user), stamp, System.currentTimeMillis());
+        profiles.put(userId, cached);
+        return cached;
+    }
+
+    // Evicts in bulk so a full cache costs one scan per tenth of its capacity rather than one per login
+    private void makeRoom() {
+        purgeExpired();
+        int excess = profiles.size() - maxProfiles * 9 / 10;
+        if (excess <= 0) {
+            return;
+        }
+        List<Long> oldest = profiles.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().loadedAt()))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList();
+        oldest.forEach(profiles::remove);
+
+        long now = System.currentTimeMillis();
+        long last = lastFullWarning.get();
+        if (now - last >= WARN_INTERVAL_MILLIS && lastFullWarning.compareAndSet(last, now)) {
+            logger.warn("Profile cache full ({} entries), evicted the {} least recently loaded; consider raising auth.profile-cache.max-entries",
+                    maxProfiles, oldest.size());
+        }
+    }
+
+    private String credentialStamp(Map<String, Object> user) {
+        Object password = user.get("password");
+        byte[] mac = hmac(("credentials:" + (password != null ? password : "")).getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(mac, STAMP_BYTES));
+    }
+
+    private String sign(String encodedPayload) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hmac(encodedPayload.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private byte[] hmac(byte[] data) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC signing is not available", e);
+        }
+    }
+
+    // User rows may hold nulls (e.g. imageLink), so Map.copyOf is not an option
+    private static Map<String, Object> copyProfile(Map<String, Object> profile) {
+        return Collections.unmodifiableMap(UserProfiles.withoutPassword(profile));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bookApp.bookApp.auth;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns user rows into what may leave the server.
+ */
+public final class UserProfiles {
+
+    private UserProfiles() {
+    }
+
+    // The password column holds the PBKDF2 salt and hash, never send it to clients
+    public static Map<String, Object> withoutPassword(Map<String, Object> user) {
+        Map<String, Object> profile = new LinkedHashMap<>(user);
+        profile.remove("password");
+        return profile;
+    }
+}
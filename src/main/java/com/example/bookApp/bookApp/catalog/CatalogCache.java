@@ -0,0 +1,172 @@
+package com.example.bookApp.bookApp.catalog;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the derived catalog (book summaries, category memberships, rating totals) in memory.
+ *
+ * On startup the last snapshot written to local disk is mapped and served straight away, unless it is
+ * older than catalog.snapshot.max-age-minutes; the database is then re-read in the background and the
+ * snapshot rewritten on every refresh.
+ * Until either source has been loaded, {@link #current()} returns null and callers go to the database.
+ */
+@Component
+public class CatalogCache {
+    private final JdbcTemplate jdbcTemplate;
+    private final Logger logger = LoggerFactory.getLogger(CatalogCache.class);
+    private final boolean snapshotEnabled;
+    private final Path snapshotPath;
+    private final long snapshotMaxAgeMillis;
+
+    // Books rated since the current refresh started reading BOOKSTARS
+    private final Set<Long> ratingsTouched = ConcurrentHashMap.newKeySet();
+
+    private volatile CatalogSnapshot snapshot;
+
+    @Autowired
+    public CatalogCache(JdbcTemplate jdbcTemplate,
+                        @Value("${catalog.snapshot.enabled:true}") boolean snapshotEnabled,
+                        @Value("${catalog.snapshot.path:data/catalog.snapshot}") String snapshotPath,
+                        @Value("${catalog.snapshot.max-age-minutes:1440}") long snapshotMaxAgeMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotEnabled = snapshotEnabled;
+        this.snapshotPath = Path.of(snapshotPath);
+        this.snapshotMaxAgeMillis = TimeUnit.MINUTES.toMillis(snapshotMaxAgeMinutes);
+    }
+
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    @PostConstruct
+    public void loadSnapshot() {
+        if (!snapshotEnabled || !Files.exists(snapshotPath)) {
+            logger.info("No catalog snapshot to warm-start from, waiting for the database");
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            CatalogSnapshot loaded = CatalogSnapshotFile.read(snapshotPath);
+            long ageMillis = System.currentTimeMillis() - loaded.getCreatedAt();
+            if (ageMillis > snapshotMaxAgeMillis) {
+                // e.g. a node restarted after a long outage: better to wait for the database than serve a stale catalog
+                logger.warn("Ignoring catalog snapshot at {}: it is {} min old, max age is {} min",
+                        snapshotPath, TimeUnit.MILLISECONDS.toMinutes(ageMillis), TimeUnit.MILLISECONDS.toMinutes(snapshotMaxAgeMillis));
+                return;
+            }
+            if (snapshot == null) {
+                snapshot = loaded;
+            }
+            logger.info("Catalog served from snapshot ({} books, {} s old) after {} ms, {} ms after JVM start",
+                    loaded.getBooks().size(), TimeUnit.MILLISECONDS.toSeconds(ageMillis),
+                    (System.nanoTime() - start) / 1_000_000, uptime());
+        } catch (IOException e) {
+            logger.warn("Ignoring unusable catalog snapshot at {}", snapshotPath, e);
+        }
+    }
+
+    // First run fires right after startup, so the database catch-up happens off the request path.
+    // Synchronized because callers (e.g. the load test) may trigger it while the scheduled run is in flight.
+    @Scheduled(initialDelayString = "${catalog.refresh.initial-delay-ms:0}", fixedDelayString = "${catalog.refresh.interval-ms:300000}")
+    public synchronized void refresh() {
+        boolean cold = snapshot == null;
+        try {
+            long start = System.nanoTime();
+            ratingsTouched.clear();
+            CatalogSnapshot loaded = loadFromDatabase();
+            snapshot = loaded;
+
+            // Ratings written while the load was running may be missing from it, re-read them
+            for (Long bookId : List.copyOf(ratingsTouched)) {
+                ratingsTouched.remove(bookId);
+                loaded.reloadRating(bookId, this::loadRating);
+            }
+            logger.info("Catalog refreshed from database ({} books) in {} ms{}",
+                    loaded.getBooks().size(), (System.nanoTime() - start) / 1_000_000,
+                    cold ? ", " + uptime() + " ms after JVM start" : "");
+
+            if (snapshotEnabled) {
+                CatalogSnapshotFile.write(snapshotPath, loaded);
+            }
+        } catch (DataAccessException e) {
+            logger.error("Error refreshing catalog from the database", e);
+        } catch (IOException e) {
+            logger.error("Error writing catalog snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    // Called after a rating changes so the cached average stays exact between refreshes
+    public void refreshRating(Long bookId) {
+        // Mark before reading so a refresh swapping in a new snapshot concurrently re-reads this book
+        ratingsTouched.add(bookId);
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.reloadRating(bookId, this::loadRating);
+        } catch (DataAccessException e) {
+            logger.error("Error refreshing rating for book {}", bookId, e);
+        }
+    }
+
+    private CatalogSnapshot.Rating loadRating(long bookId) {
+        String sql = "SELECT COALESCE(SUM(star), 0) AS starSum, COUNT(*) AS starCount FROM BOOKSTARS WHERE bookId = ?";
+        Map<String, Object> row = jdbcTemplate.queryForMap(sql, bookId);
+        return new CatalogSnapshot.Rating(
+                ((Number) row.get("starSum")).longValue(),
+                ((Number) row.get("starCount")).longValue());
+    }
+
+    private CatalogSnapshot loadFromDatabase() {
+        List<CatalogSnapshot.Book> books = new ArrayList<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT id, name, imageLink, authorId FROM book")) {
+            Number authorId = (Number) row.get("authorId");
+            books.add(new CatalogSnapshot.Book(
+                    ((Number) row.get("id")).longValue(),
+                    (String) row.get("name"),
+                    (String) row.get("imageLink"),
+                    authorId != null ? authorId.longValue() : null));
+        }
+
+        Map<Long, List<Long>> categoryBooks = new HashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT categoryId, bookId FROM categoryJunction")) {
+            categoryBooks.computeIfAbsent(((Number) row.get("categoryId")).longValue(), id -> new ArrayList<>())
+                    .add(((Number) row.get("bookId")).longValue());
+        }
+
+        Map<Long, CatalogSnapshot.Rating> ratings = new HashMap<>();
+        String ratingSql = "SELECT bookId, SUM(star) AS starSum, COUNT(*) AS starCount FROM BOOKSTARS GROUP BY bookId";
+        for (Map<String, Object> row : jdbcTemplate.queryForList(ratingSql)) {
+            ratings.put(((Number) row.get("bookId")).longValue(), new CatalogSnapshot.Rating(
+                    ((Number) row.get("starSum")).longValue(),
+                    ((Number) row.get("starCount")).longValue()));
+        }
+
+        return new CatalogSnapshot(System.currentTimeMillis(), books, categoryBooks, ratings);
+    }
+
+    private static long uptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.bookApp.bookApp.catalog;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * Derived catalog data kept in memory: book summaries, category memberships
+ * and per-book rating sums/counts. Books and categories are immutable once
+ * built; ratings can be patched in place when a user rates a book.
+ */
+public class CatalogSnapshot {
+
+    public record Book(long id, String name, String imageLink, Long authorId) {
+
+        // Same keys and order as "SELECT id,name,imageLink FROM book" so the JSON does not change
+        public Map<String, Object> toSummary() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("id", id);
+            summary.put("name", name);
+            summary.put("imageLink", imageLink);
+            return summary;
+        }
+    }
+
+    public record Rating(long sum, long count) {
+
+        public double average() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+    }
+
+    private final long createdAt;
+    private final List<Book> books;
+    private final Map<Long, List<Long>> categoryBooks;
+    private final Map<Long, Rating> ratings;
+    private final Map<Long, Book> booksById = new LinkedHashMap<>();
+
+    public CatalogSnapshot(long createdAt, List<Book> books, Map<Long, List<Long>> categoryBooks, Map<Long, Rating> ratings) {
+        this.createdAt = createdAt;
+        this.books = List.copyOf(books);
+        this.categoryBooks = Map.copyOf(categoryBooks);
+        this.ratings = new ConcurrentHashMap<>(ratings);
+        for (Book book : this.books) {
+            booksById.put(book.id(), book);
+        }
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    public Map<Long, List<Long>> getCategoryBooks() {
+        return categoryBooks;
+    }
+
+    public Map<Long, Rating> getRatings() {
+        return ratings;
+    }
+
+    public List<Map<String, Object>> bookSummaries() {
+        return books.stream().map(Book::toSummary).toList();
+    }
+
+    public List<Map<String, Object>> bookSummariesByCategory(long categoryId) {
+        return categoryBooks.getOrDefault(categoryId, List.of()).stream()
+                .map(booksById::get)
+                .filter(book -> book != null)
+                .map(Book::toSummary)
+                .toList();
+    }
+
+    public List<Map<String, Object>> bookSummariesByAuthor(long authorId) {
+        return books.stream()
+                .filter(book -> book.authorId() != null && book.authorId() == authorId)
+                .map(Book::toSummary)
+                .toList();
+    }
+
+    public Rating rating(long bookId) {
+        return ratings.getOrDefault(bookId, new Rating(0, 0));
+    }
+
+    // Reads and stores the rating while holding the book's entry, so overlapping reloads of one book
+    // apply in the order they read the database and the last write always reflects the latest state
+    public void reloadRating(long bookId, LongFunction<Rating> loader) {
+        ratings.compute(bookId, (id, previous) -> loader.apply(id));
+    }
+}
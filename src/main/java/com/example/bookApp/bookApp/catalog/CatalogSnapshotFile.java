@@ -0,0 +1,189 @@
+package com.example.bookApp.bookApp.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary on-disk format for {@link CatalogSnapshot}.
+ *
+ * Layout: magic, version, createdAt, payload length, CRC32 of the payload, then the payload
+ * (books, category memberships, ratings). Reads go through a memory-mapped buffer so a
+ * fresh node can serve the catalog without touching the database.
+ */
+public final class CatalogSnapshotFile {
+    static final int MAGIC = 0x424B4353; // "BKCS"
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 8;
+
+    private CatalogSnapshotFile() {
+    }
+
+    public static void write(Path path, CatalogSnapshot snapshot) throws IOException {
+        byte[] payload = encodePayload(snapshot);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(snapshot.getCreatedAt())
+                .putInt(payload.length)
+                .putLong(crc.getValue())
+                .flip();
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        // Write next to the target and move it into place so readers never see a half-written file
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer body = ByteBuffer.wrap(payload);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static CatalogSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Catalog snapshot is truncated: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a catalog snapshot: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported catalog snapshot version " + version + ": " + path);
+            }
+            long createdAt = buffer.getLong();
+            int payloadLength = buffer.getInt();
+            long expectedCrc = buffer.getLong();
+            if (payloadLength < 0 || payloadLength != size - HEADER_SIZE) {
+                throw new IOException("Catalog snapshot length mismatch: " + path);
+            }
+
+            ByteBuffer payload = buffer.slice(HEADER_SIZE, payloadLength);
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if (crc.getValue() != expectedCrc) {
+                throw new IOException("Catalog snapshot checksum mismatch: " + path);
+            }
+
+            return decodePayload(createdAt, payload);
+        } catch (RuntimeException e) {
+            // BufferUnderflowException and friends mean the payload does not match its header
+            throw new IOException("Corrupt catalog snapshot: " + path, e);
+        }
+    }
+
+    private static byte[] encodePayload(CatalogSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(snapshot.getBooks().size());
+            for (CatalogSnapshot.Book book : snapshot.getBooks()) {
+                out.writeLong(book.id());
+                writeString(out, book.name());
+                writeString(out, book.imageLink());
+                out.writeBoolean(book.authorId() != null);
+                out.writeLong(book.authorId() != null ? book.authorId() : 0L);
+            }
+
+            out.writeInt(snapshot.getCategoryBooks().size());
+            for (Map.Entry<Long, List<Long>> entry : snapshot.getCategoryBooks().entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (Long bookId : entry.getValue()) {
+                    out.writeLong(bookId);
+                }
+            }
+
+            Map<Long, CatalogSnapshot.Rating> ratings = Map.copyOf(snapshot.getRatings());
+            out.writeInt(ratings.size());
+            for (Map.Entry<Long, CatalogSnapshot.Rating> entry : ratings.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeLong(entry.getValue().sum());
+                out.writeLong(entry.getValue().count());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static CatalogSnapshot decodePayload(long createdAt, ByteBuffer in) {
+        int bookCount = in.getInt();
+        List<CatalogSnapshot.Book> books = new ArrayList<>(bookCount);
+        for (int i = 0; i < bookCount; i++) {
+            long id = in.getLong();
+            String name = readString(in);
+            String imageLink = readString(in);
+            boolean hasAuthor = in.get() != 0;
+            long authorId = in.getLong();
+            books.add(new CatalogSnapshot.Book(id, name, imageLink, hasAuthor ? authorId : null));
+        }
+
+        int categoryCount = in.getInt();
+        Map<Long, List<Long>> categoryBooks = new HashMap<>(categoryCount * 2);
+        for (int i = 0; i < categoryCount; i++) {
+            long categoryId = in.getLong();
+            int memberCount = in.getInt();
+            List<Long> bookIds = new ArrayList<>(memberCount);
+            for (int j = 0; j < memberCount; j++) {
+                bookIds.add(in.getLong());
+            }
+            categoryBooks.put(categoryId, List.copyOf(bookIds));
+        }
+
+        int ratingCount = in.getInt();
+        Map<Long, CatalogSnapshot.Rating> ratings = new HashMap<>(ratingCount * 2);
+        for (int i = 0; i < ratingCount; i++) {
+            ratings.put(in.getLong(), new CatalogSnapshot.Rating(in.getLong(), in.getLong()));
+        }
+
+        return new CatalogSnapshot(createdAt, books, categoryBooks, ratings);
+    }
+
+    // Length-prefixed UTF-8, -1 for null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -2,6 +2,8 @@ package com.example.bookApp.bookApp.controllers;
 
 // ... (other imports)
 
+import com.example.bookApp.bookApp.catalog.CatalogCache;
+import com.example.bookApp.bookApp.catalog.CatalogSnapshot;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -24,20 +26,28 @@ public class BookController {
     private final JdbcTemplate jdbcTemplate;
     private final Logger logger = LoggerFactory.getLogger(BookController.class);
     private final ObjectMapper objectMapper;  // Add ObjectMapper
+    private final CatalogCache catalogCache;
 
     @Autowired
-    public BookController(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {  // Inject ObjectMapper
+    public BookController(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, CatalogCache catalogCache) {  // Inject ObjectMapper
         this.jdbcTemplate = jdbcTemplate;
         this.objectMapper = objectMapper;
+        this.catalogCache = catalogCache;
     }
 
     @GetMapping("")
     public ResponseEntity<String> getAllBooksSimply() {
         logger.info("Fetching all books from the database");
         try {
-            String sql = "SELECT id,name,imageLink FROM Book";
-
-            List<Map<String, Object>> books = jdbcTemplate.queryForList(sql);
+            // Serve from the in-memory catalog once it has been loaded
+            CatalogSnapshot catalog = catalogCache.current();
+            List<Map<String, Object>> books;
+            if (catalog != null) {
+                books = catalog.bookSummaries();
+            } else {
+                String sql = "SELECT id,name,imageLink FROM Book";
+                books = jdbcTemplate.queryForList(sql);
+            }
 
             // Convert to JSON using ObjectMapper
             String json = objectMapper.writeValueAsString(books);
@@ -56,9 +66,14 @@ public class BookController {
     public ResponseEntity<?> getAllBooksSimplyByCategory(@PathVariable Long categoryId) throws JsonProcessingException {
         logger.info("Fetching all books from the database according to categoryId: {}", categoryId);
         try {
-            String sql = "SELECT b.id, b.name, b.imageLink FROM book b JOIN categoryJunction cj ON b.id = cj.bookId WHERE cj.categoryId = ?";
-
-            List<Map<String, Object>> books = jdbcTemplate.queryForList(sql, categoryId);
+            CatalogSnapshot catalog = catalogCache.current();
+            List<Map<String, Object>> books;
+            if (catalog != null) {
+                books = catalog.bookSummariesByCategory(categoryId);
+            } else {
+                String sql = "SELECT b.id, b.name, b.imageLink FROM book b JOIN categoryJunction cj ON b.id = cj.bookId WHERE cj.categoryId = ?";
+                books = jdbcTemplate.queryForList(sql, categoryId);
+            }
 
             if (books.isEmpty()) {
                 Map<String, String> errorResponse = new HashMap<>();
@@ -110,9 +125,14 @@ public class BookController {
     public ResponseEntity<?> getAllBooksSimplyByAuthorId(@PathVariable Long authorId) throws JsonProcessingException {
         logger.info("Fetching all books from the database according to authorId: {}", authorId);
         try {
-            String sql = "SELECT b.id, b.name, b.imageLink FROM book b  WHERE authorId = ?";
-
-            List<Map<String, Object>> books = jdbcTemplate.queryForList(sql, authorId);
+            CatalogSnapshot catalog = catalogCache.current();
+            List<Map<String, Object>> books;
+            if (catalog != null) {
+                books = catalog.bookSummariesByAuthor(authorId);
+            } else {
+                String sql = "SELECT b.id, b.name, b.imageLink FROM book b  WHERE authorId = ?";
+                books = jdbcTemplate.queryForList(sql, authorId);
+            }
 
             if (books.isEmpty()) {
                 Map<String, String> errorResponse = new HashMap<>();
@@ -164,6 +184,13 @@ public class BookController {
     public ResponseEntity<String> getBookStars(@PathVariable Long bookId) {
         logger.info("Fetching star rating for book with ID: {}", bookId);
         try {
+            // Averages come from the cached sums/counts when available
+            CatalogSnapshot catalog = catalogCache.current();
+            if (catalog != null) {
+                CatalogSnapshot.Rating rating = catalog.rating(bookId);
+                return ResponseEntity.ok(String.format("%.1f", rating.average()));
+            }
+
             String sql = "SELECT AVG(star) AS averageStar FROM BOOKSTARS WHERE bookId = ?";
             Double averageStar = jdbcTemplate.queryForObject(sql, Double.class, bookId);
 
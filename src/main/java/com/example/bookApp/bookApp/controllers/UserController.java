@@ -1,10 +1,15 @@
 package com.example.bookApp.bookApp.controllers;
 
+import com.example.bookApp.bookApp.auth.PasswordHasher;
+import com.example.bookApp.bookApp.auth.SessionStore;
+import com.example.bookApp.bookApp.auth.UserProfiles;
+import com.example.bookApp.bookApp.catalog.CatalogCache;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,17 +28,52 @@ public class UserController {
     private final JdbcTemplate jdbcTemplate;
     private final Logger logger = LoggerFactory.getLogger(BookController.class);
     private final ObjectMapper objectMapper;  // Add ObjectMapper
+    private final CatalogCache catalogCache;
+    private final SessionStore sessionStore;
+    private final PasswordHasher passwordHasher;
+    private final boolean allowAnonymousUserAccess;
 
     @Autowired
-    public UserController(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {  // Inject ObjectMapper
+    public UserController(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, CatalogCache catalogCache,
+                          SessionStore sessionStore, PasswordHasher passwordHasher,
+                          @Value("${auth.allow-anonymous-user-access:true}") boolean allowAnonymousUserAccess) {  // Inject ObjectMapper
         this.jdbcTemplate = jdbcTemplate;
         this.objectMapper = objectMapper;
+        this.catalogCache = catalogCache;
+        this.sessionStore = sessionStore;
+        this.passwordHasher = passwordHasher;
+        this.allowAnonymousUserAccess = allowAnonymousUserAccess;
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<String> getCurrentUser(@RequestHeader(value = "Authorization", required = false) String authorization) throws JsonProcessingException {
+        SessionStore.Session session = sessionStore.resolve(authorization);
+        Map<String, Object> profile = session != null ? sessionStore.profile(session, this::findUser) : null;
+        if (profile == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("{\"error\": \"Invalid or expired session\"}");
+        }
+        logger.info("Fetching profile for session user ID: {}", session.userId());
+        return ResponseEntity.ok()
+                .header("Content-Type", "application/json")
+                .body(objectMapper.writeValueAsString(profile));
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<String> getUserById(@PathVariable Long userId) {
+    public ResponseEntity<String> getUserById(@PathVariable Long userId, @RequestHeader(value = "Authorization", required = false) String authorization) {
         logger.info("Fetching user with ID: {}", userId);
         try {
+            // The caller's own profile is usually in the profile cache already
+            SessionStore.Session session = sessionStore.resolve(authorization);
+            Map<String, Object> profile = session != null ? sessionStore.profile(session, this::findUser) : null;
+            if (authorization != null && profile == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("{\"error\": \"Invalid or expired session\"}");
+            }
+            if (session != null && session.userId() == userId) {
+                return ResponseEntity.ok()
+                        .header("Content-Type", "application/json")
+                        .body(objectMapper.writeValueAsString(profile));
+            }
+
             String sql = "SELECT * FROM User WHERE id = ?"; // Use a placeholder for bookId
 
             List<Map<String, Object>> books = jdbcTemplate.queryForList(sql, userId); // Pass bookId as parameter
@@ -45,7 +85,7 @@ public class UserController {
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                         .body("Multiple books found with the same ID");
             } else {
-                String json = objectMapper.writeValueAsString(books.get(0));
+                String json = objectMapper.writeValueAsString(UserProfiles.withoutPassword(books.get(0)));
                 return ResponseEntity.ok()
                         .header("Content-Type", "application/json")
                         .body(json);
@@ -58,7 +98,7 @@ public class UserController {
     }
 
     @GetMapping("/{userId}/star/{bookId}")
-    public ResponseEntity<?> getBookStars(@PathVariable Long userId, @PathVariable Long bookId) throws JsonProcessingException {
+    public ResponseEntity<?> getBookStars(@PathVariable Long userId, @PathVariable Long bookId, @RequestHeader(value = "Authorization", required = false) String authorization) throws JsonProcessingException {
         logger.info("Fetching star rating for book with ID: {} and user ID: {}", bookId, userId);
         try {
             // Check if the book and user exist
@@ -70,9 +110,13 @@ public class UserController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(objectMapper.writeValueAsString(errorResponse));
             }
 
-            String userExistsSql = "SELECT COUNT(*) FROM user WHERE id = ?";
-            int userCount = jdbcTemplate.queryForObject(userExistsSql, Integer.class, userId);
-            if (userCount == 0) {
+            // A valid session already proves the user exists
+            SessionStore.Session session = authenticate(authorization);
+            ResponseEntity<String> denied = authorizeCaller(authorization, session, userId);
+            if (denied != null) {
+                return denied;
+            }
+            if (session == null && !userExists(userId)) {
                 Map<String, String> errorResponse = new HashMap<>();
                 errorResponse.put("error", "User not found");
                 return ResponseEntity.badRequest().body(objectMapper.writeValueAsString(errorResponse));
@@ -100,7 +144,8 @@ public class UserController {
 
 
     @PostMapping("/{userId}/star/{bookId}")
-    public ResponseEntity<?> updateBookStars(@PathVariable Long userId, @PathVariable Long bookId, @RequestBody Map<String, Object> requestBody) throws JsonProcessingException {
+    public ResponseEntity<?> updateBookStars(@PathVariable Long userId, @PathVariable Long bookId, @RequestBody Map<String, Object> requestBody,
+                                             @RequestHeader(value = "Authorization", required = false) String authorization) throws JsonProcessingException {
         logger.info("Updating star rating for book with ID: {} and user ID: {}", bookId, userId);
 
         try {
@@ -123,9 +168,13 @@ public class UserController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(objectMapper.writeValueAsString(errorResponse));
             }
 
-            String userExistsSql = "SELECT COUNT(*) FROM user WHERE id = ?";
-            int userCount = jdbcTemplate.queryForObject(userExistsSql, Integer.class, userId);
-            if (userCount == 0) {
+            // A valid session already proves the user exists
+            SessionStore.Session session = authenticate(authorization);
+            ResponseEntity<String> denied = authorizeCaller(authorization, session, userId);
+            if (denied != null) {
+                return denied;
+            }
+            if (session == null && !userExists(userId)) {
                 Map<String, String> errorResponse = new HashMap<>();
                 errorResponse.put("error", "User not found");
                 return ResponseEntity.badRequest().body(objectMapper.writeValueAsString(errorResponse));
@@ -134,6 +183,7 @@ public class UserController {
             // Update or insert the rating
             String upsertSql = "INSERT INTO bookStars (userId, bookId, star) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE star = VALUES(star)";
             jdbcTemplate.update(upsertSql, userId, bookId, star);
+            catalogCache.refreshRating(bookId);
 
             // Return success message in JSON format
             Map<String, String> response = new HashMap<>();
@@ -173,12 +223,27 @@ public class UserController {
             }
 
             Map<String, Object> user = users.get(0);
+            String storedPassword = (String) user.get("password");
+
+            if (passwordHasher.matches(password, storedPassword)) {
+                long userId = ((Number) user.get("id")).longValue();
+
+                // Upgrade plain-text passwords and old work factors on the next successful login.
+                // The password matched, so a failed upgrade must not fail the login itself.
+                if (passwordHasher.needsRehash(storedPassword)) {
+                    try {
+                        String upgraded = passwordHasher.hash(password);
+                        jdbcTemplate.update("UPDATE user SET password = ? WHERE id = ?", upgraded, userId);
+                        user.put("password", upgraded);
+                    } catch (DataAccessException e) {
+                        logger.error("Could not upgrade password hash for user ID: {} (see db/user-password-hash.sql)", userId, e);
+                    }
+                }
 
-            // In a real application, you'd hash the password and compare it here
-            // For simplicity, we're just checking for equality
-            if (password.equals(user.get("password"))) {
                 // Remove the password field before returning the user object
-                String json = objectMapper.writeValueAsString(user);
+                Map<String, Object> response = UserProfiles.withoutPassword(user);
+                response.put("token", sessionStore.create(user));
+                String json = objectMapper.writeValueAsString(response);
                 return ResponseEntity.ok()
                         .header("Content-Type", "application/json")
                         .body(json);
@@ -197,6 +262,18 @@ public class UserController {
     }
 
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        SessionStore.Session session = sessionStore.resolve(authorization);
+        if (session == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("{\"error\": \"Invalid or expired session\"}");
+        }
+        logger.info("Logging out user ID: {}", session.userId());
+        sessionStore.invalidate(session);
+        return ResponseEntity.ok("{\"message\": \"Logged out successfully\"}");
+    }
+
+
     private static final Pattern USERNAME_PATTERN = Pattern.compile("^[a-zA-Z0-9_]{3,20}$");
     private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
     private static final Pattern PASSWORD_PATTERN = Pattern.compile("^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$");
@@ -215,6 +292,31 @@ public class UserController {
 
 
     // Yardımcı Metotlar
+
+    // Verified session whose credentials are still current, or null
+    private SessionStore.Session authenticate(String authorization) {
+        SessionStore.Session session = sessionStore.resolve(authorization);
+        return session != null && sessionStore.profile(session, this::findUser) != null ? session : null;
+    }
+
+    private Map<String, Object> findUser(long userId) {
+        List<Map<String, Object>> users = jdbcTemplate.queryForList("SELECT * FROM user WHERE id = ?", userId);
+        return users.isEmpty() ? null : users.get(0);
+    }
+
+    // Returns the 401/403 response when the caller may not act as userId, null when the request may proceed.
+    // Anonymous callers are let through while auth.allow-anonymous-user-access is on (the default, for clients
+    // that do not send tokens yet); a token that is sent must always be valid.
+    private ResponseEntity<String> authorizeCaller(String authorization, SessionStore.Session session, Long userId) {
+        if (session == null && (authorization != null || !allowAnonymousUserAccess)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("{\"error\": \"Invalid or expired session\"}");
+        }
+        if (session != null && session.userId() != userId) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("{\"error\": \"Session does not belong to this user\"}");
+        }
+        return null;
+    }
+
     private boolean userExists(Long userId) {
         String sql = "SELECT COUNT(*) FROM user WHERE id = ?";
         return jdbcTemplate.queryForObject(sql, Integer.class, userId) > 0;
@@ -235,12 +337,19 @@ public class UserController {
 
 
     @PutMapping("/{userId}")
-    public ResponseEntity<?> updateUser(@PathVariable Long userId, @RequestBody Map<String, Object> requestBody) {
+    public ResponseEntity<?> updateUser(@PathVariable Long userId, @RequestBody Map<String, Object> requestBody,
+                                        @RequestHeader(value = "Authorization", required = false) String authorization) {
         logger.info("Updating user with ID: {}", userId);
 
         try {
-            // Kullanıcının varlığını kontrol et
-            if (!userExists(userId)) {
+            SessionStore.Session session = authenticate(authorization);
+            ResponseEntity<String> denied = authorizeCaller(authorization, session, userId);
+            if (denied != null) {
+                return denied;
+            }
+
+            // Kullanıcının varlığını kontrol et (geçerli bir oturum varsa gerek yok)
+            if (session == null && !userExists(userId)) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("{\"error\": \"User not found\"}");
             }
 
@@ -266,14 +375,21 @@ public class UserController {
 
             // SQL güncelleme ifadesini oluştur ve parametreleri topla
             List<Object> params = new ArrayList<>();
-            String updateSql = buildUpdateSql(username, password, name, surname, imageLink, userId, params);
+            String passwordHash = password != null ? passwordHasher.hash(password) : null;
+            String updateSql = buildUpdateSql(username, passwordHash, name, surname, imageLink, userId, params);
 
             // Veritabanını güncelle
             jdbcTemplate.update(updateSql, params.toArray());
 
             // Güncellenmiş kullanıcı verilerini al ve döndür
             Map<String, Object> updatedUser = fetchUserById(userId);
-            return ResponseEntity.ok(updatedUser); // Güncellenmiş kullanıcıyı döndür
+            sessionStore.updateProfile(updatedUser);
+            Map<String, Object> response = UserProfiles.withoutPassword(updatedUser);
+            if (password != null && session != null) {
+                // The new password rejects every older token, including the caller's, so hand out a fresh one
+                response.put("token", sessionStore.create(updatedUser));
+            }
+            return ResponseEntity.ok(response); // Güncellenmiş kullanıcıyı döndür
         } catch (DataAccessException e) {
             logger.error("Error updating user: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("{\"error\": \"Failed to update user\"}");
@@ -346,14 +462,14 @@ public class UserController {
 
             // SQL ekleme ifadesini oluştur ve veritabanına ekle
             String insertSql = "INSERT INTO user (name, username, password) VALUES (?, ?, ?)";
-            jdbcTemplate.update(insertSql, name, username, password);
+            jdbcTemplate.update(insertSql, name, username, passwordHasher.hash(password));
 
             // Yeni kullanıcının ID'sini al
             Long newUserId = jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
 
             // Yeni kullanıcının verilerini al ve döndür
             Map<String, Object> newUser = fetchUserById(newUserId);
-            return ResponseEntity.status(HttpStatus.CREATED).body(newUser);
+            return ResponseEntity.status(HttpStatus.CREATED).body(UserProfiles.withoutPassword(newUser));
         } catch (DataAccessException e) {
             logger.error("Error registering user: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("{\"error\": \"Failed to register user\"}");
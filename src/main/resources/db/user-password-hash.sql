@@ -0,0 +1,3 @@
+-- Widen user.password for PBKDF2 hashes ("pbkdf2$<iterations>$<salt>$<hash>", about 80 characters).
+-- Run once before deploying password hashing; existing plain-text passwords are re-hashed on the next login.
+ALTER TABLE user MODIFY password VARCHAR(128) NOT NULL;
@@ -1,9 +1,14 @@
 package com.example.bookApp.bookApp;
 
+import com.example.bookApp.bookApp.loadtest.LoadTestConfiguration;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+@SpringBootTest(properties = "loadtest.users=10") // Seeded passwords are hashed at the real work factor
+@ActiveProfiles("loadtest") // Embedded database, no MySQL needed
+@Import(LoadTestConfiguration.class)
 class BookAppApplicationTests {
 
 	@Test
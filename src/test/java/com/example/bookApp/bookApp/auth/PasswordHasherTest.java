@@ -0,0 +1,95 @@
+package com.example.bookApp.bookApp.auth;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+    // Low work factor keeps the tests fast; the format is the same as in production
+    private final PasswordHasher hasher = new PasswordHasher(1000, 2);
+
+    @Test
+    void hashMatchesOriginalPassword() {
+        String stored = hasher.hash("Secret#123");
+
+        assertTrue(stored.startsWith("pbkdf2$1000$"));
+        assertTrue(hasher.matches("Secret#123", stored));
+        // Second check is answered from the verification cache
+        assertTrue(hasher.matches("Secret#123", stored));
+    }
+
+    @Test
+    void saltMakesEveryHashDifferent() {
+        assertNotEquals(hasher.hash("Secret#123"), hasher.hash("Secret#123"));
+    }
+
+    @Test
+    void rejectsWrongPassword() {
+        String stored = hasher.hash("Secret#123");
+
+        assertFalse(hasher.matches("secret#123", stored));
+        assertTrue(hasher.matches("Secret#123", stored));
+        // A cached success for the right password must not let a wrong one through
+        assertFalse(hasher.matches("Secret#1234", stored));
+    }
+
+    @Test
+    void rejectsMalformedStoredValues() {
+        assertFalse(hasher.matches("Secret#123", null));
+        assertFalse(hasher.matches("Secret#123", "pbkdf2$"));
+        assertFalse(hasher.matches("Secret#123", "pbkdf2$1000$onlysalt"));
+        assertFalse(hasher.matches("Secret#123", "pbkdf2$many$c2FsdA$aGFzaA"));
+        assertFalse(hasher.matches("Secret#123", "pbkdf2$1000$!!!$@@@"));
+        assertFalse(hasher.matches("Secret#123", "pbkdf2$0$c2FsdA$aGFzaA"));
+    }
+
+    @Test
+    void matchesLegacyPlainTextPasswords() {
+        assertTrue(hasher.matches("Secret#123", "Secret#123"));
+        assertFalse(hasher.matches("Secret#12", "Secret#123"));
+    }
+
+    @Test
+    void needsRehashForPlainTextAndOldWorkFactor() {
+        PasswordHasher older = new PasswordHasher(500, 2);
+
+        assertTrue(hasher.needsRehash("Secret#123"));
+        assertTrue(hasher.needsRehash(null));
+        assertTrue(hasher.needsRehash(older.hash("Secret#123")));
+        assertFalse(hasher.needsRehash(hasher.hash("Secret#123")));
+        // Old hashes still verify until they are upgraded
+        assertTrue(hasher.matches("Secret#123", older.hash("Secret#123")));
+    }
+
+    @Test
+    void evictsLeastRecentlyVerifiedEntry() {
+        String a = hasher.hash("First#123");
+        String b = hasher.hash("Second#123");
+        String c = hasher.hash("Third#123");
+
+        assertTrue(hasher.matches("First#123", a));
+        assertTrue(hasher.matches("Second#123", b));
+        // Touch A so that B becomes the least recently used entry
+        assertTrue(hasher.matches("First#123", a));
+        assertTrue(hasher.matches("Third#123", c));
+
+        assertTrue(hasher.isCached(a));
+        assertFalse(hasher.isCached(b));
+        assertTrue(hasher.isCached(c));
+    }
+
+    @Test
+    void evictedEntriesStillVerify() {
+        String first = hasher.hash("First#123");
+        String second = hasher.hash("Second#123");
+        String third = hasher.hash("Third#123");
+
+        assertTrue(hasher.matches("First#123", first));
+        assertTrue(hasher.matches("Second#123", second));
+        assertTrue(hasher.matches("Third#123", third));
+        assertTrue(hasher.matches("First#123", first));
+        assertFalse(hasher.matches("Second#1234", second));
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.bookApp.bookApp.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionStoreTest {
+    private static final String SECRET = "test-secret-test-secret-test-secret";
+
+    private final SessionStore store = new SessionStore(SECRET, 60, 30, 100);
+    // Stands in for the user table
+    private final Map<Long, Map<String, Object>> rows = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final LongFunction<Map<String, Object>> loader = id -> {
+        loads.incrementAndGet();
+        return rows.get(id);
+    };
+
+    private Map<String, Object> user(long id, String username, String password) {
+        Map<String, Object> user = new HashMap<>();
+        user.put("id", id);
+        user.put("username", username);
+        user.put("password", password);
+        user.put("imageLink", null);
+        rows.put(id, user);
+        return user;
+    }
+
+    @Test
+    void requiresSharedSecret() {
+        assertThrows(IllegalStateException.class, () -> new SessionStore("", 60, 30, 100));
+        assertThrows(IllegalStateException.class, () -> new SessionStore("too-short", 60, 30, 100));
+    }
+
+    @Test
+    void resolvesIssuedTokenWithAndWithoutBearerPrefix() {
+        String token = store.create(user(1, "alice", "pbkdf2$1"));
+
+        SessionStore.Session session = store.resolve(token);
+        assertNotNull(session);
+        assertEquals(1, session.userId());
+        assertNotNull(store.resolve("Bearer " + token));
+    }
+
+    @Test
+    void anotherNodeWithTheSameSecretAcceptsTheToken() {
+        String token = store.create(user(1, "alice", "pbkdf2$1"));
+        SessionStore otherNode = new SessionStore(SECRET, 60, 30, 100);
+
+        SessionStore.Session session = otherNode.resolve(token);
+        assertNotNull(session);
+        // Nothing cached there yet: the profile comes from the user row
+        assertEquals("alice", otherNode.profile(session, loader).get("username"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherSecret() {
+        SessionStore other = new SessionStore("other-secret-other-secret-other-secret", 60, 30, 100);
+        String token = other.create(user(1, "alice", "pbkdf2$1"));
+
+        assertNull(store.resolve(token));
+        assertNotNull(other.resolve(token));
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        String token = store.create(user(1, "alice", "pbkdf2$1"));
+        int dot = token.indexOf('.');
+        String payload = token.substring(0, dot);
+        String signature = token.substring(dot + 1);
+        char last = signature.charAt(signature.length() - 1);
+
+        assertNull(store.resolve(payload + "." + signature.substring(0, signature.length() - 1) + (last == 'A' ? 'B' : 'A')));
+        assertNull(store.resolve((payload.charAt(0) == 'M' ? 'N' : 'M') + payload.substring(1) + "." + signature));
+        assertNull(store.resolve(payload));
+        assertNull(store.resolve(payload + "."));
+        assertNull(store.resolve("." + signature));
+        assertNull(store.resolve("garbage"));
+        assertNull(store.resolve(""));
+        assertNull(store.resolve(null));
+    }
+
+    @Test
+    void expiredTokensAreRejected() {
+        SessionStore expiring = new SessionStore(SECRET, 0, 30, 100);
+        String token = expiring.create(user(1, "alice", "pbkdf2$1"));
+
+        assertNull(expiring.resolve(token));
+    }
+
+    @Test
+    void profileIsCachedWithoutPasswordAndKeepsNulls() {
+        SessionStore.Session session = store.resolve(store.create(user(1, "alice", "pbkdf2$1")));
+
+        Map<String, Object> profile = store.profile(session, loader);
+        assertFalse(profile.containsKey("password"));
+        assertTrue(profile.containsKey("imageLink"));
+        assertNull(profile.get("imageLink"));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void profileUpdateReachesEveryTokenOfTheUser() {
+        String phone = store.create(user(1, "alice", "pbkdf2$1"));
+        String laptop = store.create(user(1, "alice", "pbkdf2$1"));
+        String other = store.create(user(2, "bob", "pbkdf2$2"));
+
+        store.updateProfile(user(1, "alice2", "pbkdf2$1"));
+
+        assertEquals("alice2", store.profile(store.resolve(phone), loader).get("username"));
+        assertEquals("alice2", store.profile(store.resolve(laptop), loader).get("username"));
+        assertEquals("bob", store.profile(store.resolve(other), loader).get("username"));
+    }
+
+    @Test
+    void passwordChangeRejectsOlderTokensOnEveryNode() {
+        String token = store.create(user(1, "alice", "pbkdf2$1"));
+        SessionStore otherNode = new SessionStore(SECRET, 60, 0, 100);
+        assertNotNull(otherNode.profile(otherNode.resolve(token), loader));
+
+        // Changed through this node: the cache is updated at once
+        store.updateProfile(user(1, "alice", "pbkdf2$2"));
+        assertNull(store.profile(store.resolve(token), loader));
+        // The other node sees the new row once its cached profile expires (immediately here)
+        assertNull(otherNode.profile(otherNode.resolve(token), loader));
+
+        String fresh = store.create(rows.get(1L));
+        assertNotNull(store.profile(store.resolve(fresh), loader));
+        assertNotNull(otherNode.profile(otherNode.resolve(fresh), loader));
+    }
+
+    @Test
+    void deletedUserIsRejected() {
+        SessionStore uncached = new SessionStore(SECRET, 60, 0, 100);
+        String token = uncached.create(user(1, "alice", "pbkdf2$1"));
+        rows.remove(1L);
+
+        assertNull(uncached.profile(uncached.resolve(token), loader));
+    }
+
+    @Test
+    void loggedOutTokenIsRejected() {
+        String token = store.create(user(1, "alice", "pbkdf2$1"));
+        String otherLogin = store.create(user(1, "alice", "pbkdf2$1"));
+        store.invalidate(store.resolve(token));
+
+        assertNull(store.resolve(token));
+        assertNotNull(store.resolve(otherLogin));
+    }
+
+    @Test
+    void fullCacheEvictsInBulkAndReloadsEvictedProfiles() throws InterruptedException {
+        SessionStore small = new SessionStore(SECRET, 60, 30, 10);
+        String first = small.create(user(1, "user1", "pbkdf2$1"));
+        for (long id = 2; id <= 10; id++) {
+            Thread.sleep(2);
+            small.create(user(id, "user" + id, "pbkdf2$" + id));
+        }
+
+        // The eleventh profile evicts the least recently loaded one; its token still works
+        small.create(user(11, "user11", "pbkdf2$11"));
+        assertEquals("user1", small.profile(small.resolve(first), loader).get("username"));
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.bookApp.bookApp.catalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    private CatalogSnapshot sample() {
+        return sample(1234L);
+    }
+
+    private CatalogSnapshot sample(long createdAt) {
+        return new CatalogSnapshot(createdAt,
+                List.of(new CatalogSnapshot.Book(1, "Kürk Mantolu Madonna", "https://img/1.jpg", 7L),
+                        new CatalogSnapshot.Book(2, "No Cover", null, null)),
+                Map.of(3L, List.of(2L, 1L)),
+                Map.of(1L, new CatalogSnapshot.Rating(9, 2)));
+    }
+
+    private Path written() throws IOException {
+        return written(System.currentTimeMillis());
+    }
+
+    private Path written(long createdAt) throws IOException {
+        Path path = dir.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(path, sample(createdAt));
+        return path;
+    }
+
+    private void corrupt(Path path, int offset, byte value) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[offset] = value;
+        Files.write(path, bytes);
+    }
+
+    private void assertRejectedAndIgnored(Path path) {
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path));
+
+        CatalogCache cache = new CatalogCache(null, true, path.toString(), 60);
+        cache.loadSnapshot();
+        assertNull(cache.current());
+    }
+
+    @Test
+    void roundTripKeepsBooksCategoriesAndRatings() throws IOException {
+        CatalogSnapshot read = CatalogSnapshotFile.read(written(1234L));
+
+        assertEquals(1234L, read.getCreatedAt());
+        assertEquals(sample().getBooks(), read.getBooks());
+        assertNull(read.getBooks().get(1).imageLink());
+        assertNull(read.getBooks().get(1).authorId());
+        assertEquals(List.of(2L, 1L), read.getCategoryBooks().get(3L));
+        assertEquals(new CatalogSnapshot.Rating(9, 2), read.rating(1));
+        assertEquals(4.5, read.rating(1).average());
+        assertEquals(0.0, read.rating(2).average());
+    }
+
+    @Test
+    void cacheServesValidSnapshot() throws IOException {
+        CatalogCache cache = new CatalogCache(null, true, written().toString(), 60);
+        cache.loadSnapshot();
+
+        assertNotNull(cache.current());
+        assertEquals(2, cache.current().bookSummaries().size());
+    }
+
+    @Test
+    void cacheIgnoresSnapshotOlderThanMaxAge() throws IOException {
+        Path path = written(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(61));
+        assertNotNull(CatalogSnapshotFile.read(path));
+
+        CatalogCache cache = new CatalogCache(null, true, path.toString(), 60);
+        cache.loadSnapshot();
+        assertNull(cache.current());
+    }
+
+    @Test
+    void rejectsBadMagic() throws IOException {
+        Path path = written();
+        corrupt(path, 0, (byte) 0);
+        assertRejectedAndIgnored(path);
+    }
+
+    @Test
+    void rejectsUnknownVersion() throws IOException {
+        Path path = written();
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).putInt(4, CatalogSnapshotFile.VERSION + 1);
+        Files.write(path, bytes);
+        assertRejectedAndIgnored(path);
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        Path path = written();
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 5));
+        assertRejectedAndIgnored(path);
+
+        Files.write(path, Arrays.copyOf(bytes, 10));
+        assertRejectedAndIgnored(path);
+    }
+
+    @Test
+    void rejectsFlippedPayloadByte() throws IOException {
+        Path path = written();
+        byte[] bytes = Files.readAllBytes(path);
+        corrupt(path, bytes.length - 1, (byte) (bytes[bytes.length - 1] ^ 1));
+        assertRejectedAndIgnored(path);
+    }
+}
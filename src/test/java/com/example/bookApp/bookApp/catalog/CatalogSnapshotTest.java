@@ -0,0 +1,51 @@
+package com.example.bookApp.bookApp.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotTest {
+
+    @Test
+    void overlappingReloadsOfOneBookApplyInOrder() throws Exception {
+        CatalogSnapshot snapshot = new CatalogSnapshot(0, List.of(new CatalogSnapshot.Book(1, "Book", null, null)),
+                Map.of(), Map.of(1L, new CatalogSnapshot.Rating(3, 1)));
+        CountDownLatch firstReading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        // The first reload read the database before the second rating was written and is slow to store it
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> snapshot.reloadRating(1, id -> {
+            firstReading.countDown();
+            await(releaseFirst);
+            return new CatalogSnapshot.Rating(8, 2);
+        }));
+        assertTrue(firstReading.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() ->
+                snapshot.reloadRating(1, id -> new CatalogSnapshot.Rating(12, 3)));
+        Thread.sleep(100);
+        assertFalse(second.isDone());
+
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(new CatalogSnapshot.Rating(12, 3), snapshot.rating(1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.bookApp.bookApp.loadtest;
+
+import com.example.bookApp.bookApp.BookAppApplication;
+import com.example.bookApp.bookApp.catalog.CatalogCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the app once in a fresh JVM (started by {@link ColdStartTest}) and times the first request to each
+ * catalog endpoint, then prints the result as one JSON line prefixed with {@link #RESULT_PREFIX}.
+ *
+ * Argument: the snapshot path. Whether a snapshot is served depends only on whether that file exists.
+ */
+public class ColdStartProbe {
+    static final String RESULT_PREFIX = "COLDSTART ";
+    // /categories is not served from the catalog; going first, it absorbs the one-off servlet and JSON setup
+    static final List<String> PATHS = List.of("/categories", "/books", "/books/category/1", "/books/1/star");
+
+    public static void main(String[] args) throws Exception {
+        Path snapshotPath = Path.of(args[0]);
+        boolean snapshotPresent = Files.exists(snapshotPath);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BookAppApplication.class, LoadTestConfiguration.class)
+                .profiles("loadtest")
+                // Arguments rather than default properties, which application-loadtest.properties would override
+                .run("--server.port=0",
+                        "--loadtest.users=10",
+                        "--catalog.snapshot.enabled=true",
+                        "--catalog.snapshot.path=" + snapshotPath);
+        long readyAt = uptime();
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        boolean catalogInMemory = context.getBean(CatalogCache.class).current() != null;
+
+        Map<String, Object> firstResponses = new LinkedHashMap<>();
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            for (String path : PATHS) {
+                long start = System.nanoTime();
+                HttpResponse<Void> response = client.send(
+                        HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                Map<String, Object> timing = new LinkedHashMap<>();
+                timing.put("status", response.statusCode());
+                timing.put("latencyMs", (System.nanoTime() - start) / 1_000_000.0);
+                timing.put("sinceJvmStartMs", uptime());
+                firstResponses.put("GET " + path, timing);
+            }
+        }
+
+        // The next boot needs a snapshot to start from; the scheduled refresh writes it shortly after startup
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (!Files.exists(snapshotPath) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("snapshotPresent", snapshotPresent);
+        result.put("catalogInMemoryWhenReady", catalogInMemory);
+        result.put("contextReadySinceJvmStartMs", readyAt);
+        result.put("firstResponses", firstResponses);
+        String json = new ObjectMapper().writeValueAsString(result);
+        context.close();
+        System.out.println(RESULT_PREFIX + json);
+        System.exit(0);
+    }
+
+    private static long uptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
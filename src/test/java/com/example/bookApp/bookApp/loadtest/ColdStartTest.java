@@ -0,0 +1,91 @@
+package com.example.bookApp.bookApp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures time to the first catalog responses after a cold boot, with and without a catalog snapshot.
+ * Every boot runs in its own JVM (see {@link ColdStartProbe}) so later boots do not profit from a warm JIT:
+ * first without a snapshot (which writes one), then from that snapshot, then without one again.
+ *
+ * The database is the embedded one, so the no-snapshot numbers understate the cost of reading a real MySQL
+ * server over the network. Results go to build/reports/loadtest/coldstart.json (-Dloadtest.coldstart-report).
+ */
+@Tag("load")
+class ColdStartTest {
+    private final Logger logger = LoggerFactory.getLogger(ColdStartTest.class);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void firstResponsesWithAndWithoutSnapshot() throws Exception {
+        Path snapshot = dir.resolve("catalog.snapshot");
+
+        Map<String, Object> runs = new LinkedHashMap<>();
+        runs.put("withoutSnapshot", boot(snapshot));
+        assertTrue(Files.exists(snapshot), "First boot did not write a snapshot");
+        runs.put("withSnapshot", boot(snapshot));
+        Files.delete(snapshot);
+        runs.put("withoutSnapshotAgain", boot(snapshot));
+
+        assertEquals(false, ((Map<?, ?>) runs.get("withoutSnapshot")).get("snapshotPresent"));
+        assertEquals(true, ((Map<?, ?>) runs.get("withSnapshot")).get("catalogInMemoryWhenReady"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", Instant.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("runs", runs);
+
+        Path path = Path.of(System.getProperty("loadtest.coldstart-report", "build/reports/loadtest/coldstart.json"));
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+        logger.info("Cold start report written to {}", path.toAbsolutePath());
+    }
+
+    private Map<?, ?> boot(Path snapshot) throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                ColdStartProbe.class.getName(), snapshot.toString())
+                .redirectErrorStream(true)
+                .start();
+
+        String result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            List<String> lines = reader.lines().toList();
+            for (String line : lines) {
+                if (line.startsWith(ColdStartProbe.RESULT_PREFIX)) {
+                    result = line.substring(ColdStartProbe.RESULT_PREFIX.length());
+                }
+            }
+            if (result == null) {
+                logger.error("Cold start probe output:\n{}", String.join("\n", lines));
+            }
+        }
+        assertTrue(process.waitFor(3, TimeUnit.MINUTES), "Cold start probe did not exit");
+        assertNotNull(result, "Cold start probe printed no result");
+        Map<?, ?> run = new ObjectMapper().readValue(result, Map.class);
+        logger.info("Cold start: {}", run);
+        return run;
+    }
+}
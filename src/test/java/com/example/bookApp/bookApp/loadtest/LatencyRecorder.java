@@ -0,0 +1,65 @@
+package com.example.bookApp.bookApp.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects response times for one route and summarises them as throughput and percentiles.
+ */
+public class LatencyRecorder {
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    public synchronized void record(long latencyNanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    public synchronized int errors() {
+        return errors;
+    }
+
+    public synchronized Map<String, Object> summary(double measuredSeconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", round(count / measuredSeconds));
+        summary.put("p50Ms", percentileMillis(sorted, 0.50));
+        summary.put("p99Ms", percentileMillis(sorted, 0.99));
+        summary.put("p999Ms", percentileMillis(sorted, 0.999));
+        summary.put("maxMs", sorted.length == 0 ? 0.0 : round(sorted[sorted.length - 1] / 1_000_000.0));
+        return summary;
+    }
+
+    public synchronized void mergeInto(LatencyRecorder total) {
+        for (int i = 0; i < count; i++) {
+            total.record(latencies[i], true);
+        }
+        synchronized (total) {
+            total.errors += errors;
+        }
+    }
+
+    // Nearest-rank percentile
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return round(sorted[Math.max(rank - 1, 0)] / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.bookApp.bookApp.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+/**
+ * Open-model load generator: requests arrive as a Poisson process at a fixed rate no matter
+ * how fast the server answers, and each one runs on its own virtual thread.
+ *
+ * Latency is measured from the scheduled arrival time rather than from when the request was
+ * actually sent, so a stalled server shows up in the percentiles instead of lowering the load.
+ * Route choice and request parameters come from a seeded {@link Random} on the scheduling thread,
+ * so the same seed yields the same request sequence.
+ */
+public class LoadGenerator {
+
+    /**
+     * One entry in the weighted request mix. The predicate decides which status codes count as success.
+     */
+    public record Route(String name, int weight, Function<Random, HttpRequest> request, IntPredicate success) {
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+    private final List<Route> routes;
+    private final int totalWeight;
+    private final double ratePerSecond;
+    private final Random random;
+
+    public LoadGenerator(List<Route> routes, double ratePerSecond, long seed) {
+        this.routes = List.copyOf(routes);
+        this.totalWeight = routes.stream().mapToInt(Route::weight).sum();
+        this.ratePerSecond = ratePerSecond;
+        this.random = new Random(seed);
+    }
+
+    public Map<String, LatencyRecorder> run(Duration warmup, Duration duration) throws InterruptedException {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        for (Route route : routes) {
+            recorders.put(route.name(), new LatencyRecorder());
+        }
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long nextArrival = start;
+        long late = 0;
+
+        // Closed in reverse order: in-flight requests finish before the client's connections are released
+        try (HttpClient client = newClient(); ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (nextArrival < end) {
+                long wait = nextArrival - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (wait < -1_000_000) {
+                    late++;
+                }
+
+                Route route = pick();
+                HttpRequest request = route.request().apply(random);
+                long intendedStart = nextArrival;
+                LatencyRecorder recorder = intendedStart >= measureFrom ? recorders.get(route.name()) : null;
+                executor.submit(() -> send(client, route, request, intendedStart, recorder));
+
+                // Exponential inter-arrival times give a Poisson arrival process
+                nextArrival += (long) (-Math.log(1 - random.nextDouble()) / ratePerSecond * 1_000_000_000L);
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                logger.warn("Requests still in flight after the run, abandoning them");
+                executor.shutdownNow();
+            }
+        }
+
+        if (late > 0) {
+            logger.warn("Generator fell behind schedule by more than 1 ms for {} arrivals", late);
+        }
+        return recorders;
+    }
+
+    private static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    private void send(HttpClient client, Route route, HttpRequest request, long intendedStart, LatencyRecorder recorder) {
+        boolean success;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            success = route.success().test(response.statusCode());
+        } catch (Exception e) {
+            success = false;
+        }
+        if (recorder != null) {
+            recorder.record(System.nanoTime() - intendedStart, success);
+        }
+    }
+
+    private Route pick() {
+        int ticket = random.nextInt(totalWeight);
+        for (Route route : routes) {
+            ticket -= route.weight();
+            if (ticket < 0) {
+                return route;
+            }
+        }
+        return routes.get(routes.size() - 1);
+    }
+}
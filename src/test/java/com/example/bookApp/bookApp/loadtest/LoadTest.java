@@ -0,0 +1,245 @@
+package com.example.bookApp.bookApp.loadtest;
+
+import com.example.bookApp.bookApp.catalog.CatalogCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a weighted mix of every endpoint against the seeded embedded database and writes
+ * throughput and latency percentiles per route to a JSON report (see application-loadtest.properties).
+ *
+ * Excluded from the regular test task; run with "./gradlew loadTest".
+ */
+@Tag("load")
+@ActiveProfiles("loadtest")
+@Import(LoadTestConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LoadTest {
+    private final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LoadTestProperties properties;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private record Caller(long userId, String token) {
+    }
+
+    @AfterEach
+    void closeClient() {
+        client.close();
+    }
+
+    @Test
+    void runLoad() throws Exception {
+        // Start from a loaded catalog so every build is measured in the same state
+        catalogCache.refresh();
+
+        List<Caller> callers = new ArrayList<>();
+        for (long userId = 1; userId <= Math.min(properties.sessionPool(), properties.users()); userId++) {
+            callers.add(new Caller(userId, login(userId)));
+        }
+
+        Queue<String> disposableTokens = new ConcurrentLinkedQueue<>();
+        List<LoadGenerator.Route> routes = routes(callers, disposableTokens);
+        fillDisposableTokens(disposableTokens, routes, callers);
+
+        LoadGenerator generator = new LoadGenerator(routes, properties.rate(), properties.seed());
+        Instant startedAt = Instant.now();
+        Map<String, LatencyRecorder> results = generator.run(
+                Duration.ofSeconds(properties.warmupSeconds()), Duration.ofSeconds(properties.durationSeconds()));
+
+        Path report = writeReport(startedAt, results);
+        logger.info("Load test report written to {}", report.toAbsolutePath());
+        assertTrue(Files.exists(report));
+
+        // Every route declares which statuses it expects, so any error here is a failed or timed-out request
+        Map<String, Integer> errors = new LinkedHashMap<>();
+        results.forEach((route, recorder) -> {
+            if (recorder.errors() > 0) {
+                errors.put(route, recorder.errors());
+            }
+        });
+        assertTrue(errors.isEmpty(), "Unexpected errors per route: " + errors + ", see " + report);
+    }
+
+    private List<LoadGenerator.Route> routes(List<Caller> callers, Queue<String> disposableTokens) {
+        long[] registered = {0};
+        List<LoadGenerator.Route> routes = new ArrayList<>();
+
+        routes.add(route("GET /books", 15, random -> get("/books")));
+        routes.add(route("GET /books/{bookId}", 15, random -> get("/books/" + bookId(random))));
+        routes.add(route("GET /books/category/{categoryId}", 10, random -> get("/books/category/" + (random.nextInt(properties.categories()) + 1))));
+        // Not every author has a book, so 404 is a valid answer here
+        routes.add(new LoadGenerator.Route("GET /books/author/{authorId}", 8,
+                random -> get("/books/author/" + (random.nextInt(properties.authors()) + 1)),
+                status -> status == 200 || status == 404));
+        routes.add(route("GET /books/recommendations", 5, random -> get("/books/recommendations")));
+        routes.add(route("GET /books/{bookId}/star", 10, random -> get("/books/" + bookId(random) + "/star")));
+        routes.add(route("GET /authors", 3, random -> get("/authors")));
+        routes.add(route("GET /authors/{authorId}", 5, random -> get("/authors/" + (random.nextInt(properties.authors()) + 1))));
+        routes.add(route("GET /categories", 5, random -> get("/categories")));
+
+        routes.add(route("GET /users/me", 3, random -> authorized(caller(callers, random), "/users/me").GET().build()));
+        routes.add(route("GET /users/{userId}", 5, random -> {
+            Caller caller = caller(callers, random);
+            return authorized(caller, "/users/" + caller.userId()).GET().build();
+        }));
+        routes.add(route("GET /users/{userId}/star/{bookId}", 6, random -> {
+            Caller caller = caller(callers, random);
+            long bookId = properties.ratedBookId(caller.userId(), random.nextInt(properties.ratingsPerUser()));
+            return authorized(caller, "/users/" + caller.userId() + "/star/" + bookId).GET().build();
+        }));
+        routes.add(route("POST /users/{userId}/star/{bookId}", 5, random -> {
+            Caller caller = caller(callers, random);
+            return authorized(caller, "/users/" + caller.userId() + "/star/" + bookId(random))
+                    .POST(json("{\"star\": " + (random.nextInt(5) + 1) + "}"))
+                    .build();
+        }));
+        routes.add(route("PUT /users/{userId}", 1, random -> {
+            Caller caller = caller(callers, random);
+            return authorized(caller, "/users/" + caller.userId())
+                    .PUT(json("{\"surname\": \"Surname" + random.nextInt(1000) + "\"}"))
+                    .build();
+        }));
+        routes.add(route("POST /users/login", 2, random -> {
+            long userId = random.nextInt(properties.users()) + 1;
+            return request("/users/login").POST(json(loginBody(userId))).build();
+        }));
+        routes.add(route("POST /users/logout", 1, random -> {
+            HttpRequest.Builder builder = request("/users/logout").POST(HttpRequest.BodyPublishers.noBody());
+            String token = disposableTokens.poll();
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        }));
+        routes.add(new LoadGenerator.Route("POST /users/register", 1, random -> {
+            String username = "lt_" + (++registered[0]);
+            return request("/users/register")
+                    .POST(json("{\"name\": \"Load\", \"username\": \"" + username + "\", \"password\": \"Loadtest1!\"}"))
+                    .build();
+        }, status -> status == 201));
+        return routes;
+    }
+
+    // Tokens the logout route may spend; repeat logins hit the verification cache and are cheap
+    private void fillDisposableTokens(Queue<String> tokens, List<LoadGenerator.Route> routes, List<Caller> callers) throws Exception {
+        int totalWeight = routes.stream().mapToInt(LoadGenerator.Route::weight).sum();
+        int logoutWeight = routes.stream().filter(route -> route.name().equals("POST /users/logout"))
+                .mapToInt(LoadGenerator.Route::weight).sum();
+        double expectedRequests = properties.rate() * (properties.warmupSeconds() + properties.durationSeconds());
+        int needed = (int) Math.ceil(expectedRequests * logoutWeight / totalWeight * 1.5) + 10;
+
+        for (int i = 0; i < needed; i++) {
+            tokens.add(login(callers.get(i % callers.size()).userId()));
+        }
+    }
+
+    private Path writeReport(Instant startedAt, Map<String, LatencyRecorder> results) throws Exception {
+        double measuredSeconds = properties.durationSeconds();
+
+        Map<String, Object> routeSummaries = new LinkedHashMap<>();
+        LatencyRecorder total = new LatencyRecorder();
+        for (Map.Entry<String, LatencyRecorder> entry : results.entrySet()) {
+            routeSummaries.put(entry.getKey(), entry.getValue().summary(measuredSeconds));
+            entry.getValue().mergeInto(total);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("settings", properties);
+        report.put("total", total.summary(measuredSeconds));
+        report.put("routes", routeSummaries);
+
+        Path path = Path.of(properties.report());
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+        return path;
+    }
+
+    private String login(long userId) throws Exception {
+        HttpResponse<String> response = client.send(
+                request("/users/login").POST(json(loginBody(userId))).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Login failed for seeded user " + userId);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private String loginBody(long userId) {
+        return "{\"username\": \"" + properties.username(userId) + "\", \"password\": \"" + properties.password(userId) + "\"}";
+    }
+
+    private long bookId(Random random) {
+        return random.nextInt(properties.books()) + 1;
+    }
+
+    private static Caller caller(List<Caller> callers, Random random) {
+        return callers.get(random.nextInt(callers.size()));
+    }
+
+    private static LoadGenerator.Route route(String name, int weight, Function<Random, HttpRequest> request) {
+        return new LoadGenerator.Route(name, weight, request, status -> status == 200);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.Builder authorized(Caller caller, String path) {
+        return request(path).header("Authorization", "Bearer " + caller.token());
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bookApp.bookApp.loadtest;
+
+import com.example.bookApp.bookApp.auth.PasswordHasher;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Import together with the "loadtest" profile to boot the app on the seeded embedded database.
+ */
+@TestConfiguration
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class LoadTestConfiguration {
+
+    @Bean
+    public SyntheticDataSeeder syntheticDataSeeder(JdbcTemplate jdbcTemplate, LoadTestProperties properties, PasswordHasher passwordHasher) {
+        return new SyntheticDataSeeder(jdbcTemplate, properties, passwordHasher);
+    }
+}
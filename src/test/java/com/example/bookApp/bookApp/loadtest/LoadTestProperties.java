@@ -0,0 +1,35 @@
+package com.example.bookApp.bookApp.loadtest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Scale of the synthetic data set and shape of the load, bound from "loadtest.*".
+ */
+@ConfigurationProperties(prefix = "loadtest")
+public record LoadTestProperties(
+        long seed,
+        int authors,
+        int categories,
+        int books,
+        int categoriesPerBook,
+        int users,
+        int ratingsPerUser,
+        double rate,
+        int warmupSeconds,
+        int durationSeconds,
+        int sessionPool,
+        String report) {
+
+    // Seeded ratings are a pure function of the user so the load generator can pick rated books
+    public long ratedBookId(long userId, int index) {
+        return Math.floorMod(userId * 7 + index * 13L, books) + 1;
+    }
+
+    public String username(long userId) {
+        return "user" + userId;
+    }
+
+    public String password(long userId) {
+        return "Seed#" + userId + "Pw";
+    }
+}
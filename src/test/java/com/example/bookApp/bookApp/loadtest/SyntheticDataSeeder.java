@@ -0,0 +1,101 @@
+package com.example.bookApp.bookApp.loadtest;
+
+import com.example.bookApp.bookApp.auth.PasswordHasher;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+/**
+ * Fills the embedded database with deterministic data: the same seed and scale always
+ * produce the same rows, so two builds are measured against identical catalogs.
+ * Only the password salts differ between runs; their verification cost does not.
+ *
+ * Runs while the context is being created, i.e. before the scheduled catalog refresh fires.
+ */
+public class SyntheticDataSeeder {
+    private static final String[] WORDS = {
+            "Silent", "River", "Empire", "Shadow", "Garden", "Winter", "Glass", "Iron",
+            "Letters", "Night", "Ocean", "Stone", "Crown", "Paper", "Storm", "Harbor"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadTestProperties properties;
+    private final PasswordHasher passwordHasher;
+    private final Logger logger = LoggerFactory.getLogger(SyntheticDataSeeder.class);
+
+    public SyntheticDataSeeder(JdbcTemplate jdbcTemplate, LoadTestProperties properties, PasswordHasher passwordHasher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.passwordHasher = passwordHasher;
+    }
+
+    @PostConstruct
+    public void seed() {
+        long start = System.nanoTime();
+        Random random = new Random(properties.seed());
+
+        List<Object[]> authors = new ArrayList<>();
+        for (long id = 1; id <= properties.authors(); id++) {
+            authors.add(new Object[]{id, "Author " + id, "https://img.example.com/authors/" + id + ".jpg"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO AUTHOR (id, name, imageLink) VALUES (?, ?, ?)", authors);
+
+        List<Object[]> categories = new ArrayList<>();
+        for (long id = 1; id <= properties.categories(); id++) {
+            categories.add(new Object[]{id, "Category " + id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO CATEGORY (id, name) VALUES (?, ?)", categories);
+
+        List<Object[]> books = new ArrayList<>();
+        List<Object[]> memberships = new ArrayList<>();
+        for (long id = 1; id <= properties.books(); id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            long authorId = random.nextInt(properties.authors()) + 1;
+            books.add(new Object[]{id, name, "https://img.example.com/books/" + id + ".jpg", "Synthetic description of " + name, authorId});
+
+            Set<Long> bookCategories = new LinkedHashSet<>();
+            int wanted = Math.min(properties.categoriesPerBook(), properties.categories());
+            while (bookCategories.size() < wanted) {
+                bookCategories.add((long) random.nextInt(properties.categories()) + 1);
+            }
+            for (Long categoryId : bookCategories) {
+                memberships.add(new Object[]{id, categoryId});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO book (id, name, imageLink, description, authorId) VALUES (?, ?, ?, ?, ?)", books);
+        jdbcTemplate.batchUpdate("INSERT INTO categoryJunction (bookId, categoryId) VALUES (?, ?)", memberships);
+
+        // Ids are left to AUTO_INCREMENT (so /users/register keeps working) and come out as 1..users.
+        // Passwords are stored already hashed with the configured work factor, like upgraded production rows,
+        // so logins measure real verification cost instead of the one-off plain-text upgrade.
+        List<Object[]> users = LongStream.rangeClosed(1, properties.users())
+                .parallel()
+                .mapToObj(id -> new Object[]{"Name" + id, "Surname" + id, properties.username(id), passwordHasher.hash(properties.password(id))})
+                .toList();
+        jdbcTemplate.batchUpdate("INSERT INTO user (name, surname, username, password) VALUES (?, ?, ?, ?)", users);
+
+        List<Object[]> stars = new ArrayList<>();
+        for (long userId = 1; userId <= properties.users(); userId++) {
+            Set<Long> rated = new LinkedHashSet<>();
+            for (int i = 0; i < properties.ratingsPerUser(); i++) {
+                long bookId = properties.ratedBookId(userId, i);
+                if (rated.add(bookId)) {
+                    stars.add(new Object[]{userId, bookId, random.nextInt(5) + 1});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO BOOKSTARS (userId, bookId, star) VALUES (?, ?, ?)", stars);
+
+        logger.info("Seeded {} authors, {} categories, {} books, {} memberships, {} users, {} ratings in {} ms",
+                authors.size(), categories.size(), books.size(), memberships.size(), users.size(), stars.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
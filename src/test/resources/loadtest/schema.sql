@@ -0,0 +1,40 @@
+CREATE TABLE AUTHOR (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    imageLink VARCHAR(512)
+);
+
+CREATE TABLE CATEGORY (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE book (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    imageLink VARCHAR(512),
+    description VARCHAR(2000),
+    authorId BIGINT
+);
+
+CREATE TABLE categoryJunction (
+    bookId BIGINT NOT NULL,
+    categoryId BIGINT NOT NULL,
+    PRIMARY KEY (bookId, categoryId)
+);
+
+CREATE TABLE user (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    surname VARCHAR(255),
+    username VARCHAR(20) NOT NULL UNIQUE,
+    password VARCHAR(128) NOT NULL,
+    imageLink VARCHAR(512)
+);
+
+CREATE TABLE BOOKSTARS (
+    userId BIGINT NOT NULL,
+    bookId BIGINT NOT NULL,
+    star INT NOT NULL,
+    PRIMARY KEY (userId, bookId)
+);